@@ -0,0 +1,240 @@
+package battleship;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Game events published through a preallocated ring buffer to asynchronous
+ * consumers, each on its own thread. Publishing never waits: a claim is one
+ * CAS, and when the slowest consumer is a full ring behind the event is
+ * dropped and counted instead of stalling the shot.
+ */
+class EventBus {
+
+    enum Type { SHIP_PLACED, SHOT_MISSED, SHOT_HIT, SHIP_SUNK, PLAYER_OUT, GAME_WON }
+
+    // How an idle consumer waits for the next event
+    enum WaitStrategy {
+        BUSY_SPIN {
+            void idle(int rounds) { Thread.onSpinWait(); }
+        },
+        YIELDING {
+            void idle(int rounds) {
+                if (rounds < 100) Thread.onSpinWait();
+                else Thread.yield();
+            }
+        },
+        SLEEPING {
+            void idle(int rounds) {
+                if (rounds < 100) Thread.onSpinWait();
+                else if (rounds < 200) Thread.yield();
+                else LockSupport.parkNanos(100_000);
+            }
+        };
+
+        abstract void idle(int rounds);
+    }
+
+    interface Handler {
+        // endOfBatch is true for the last event currently available, a good point to flush
+        void onEvent(Event event, long sequence, boolean endOfBatch) throws Exception;
+    }
+
+    final Event[] slots;
+    final int mask;
+    final AtomicLongArray published; // sequence last written to each slot
+    final AtomicLong cursor = new AtomicLong(-1);
+    final List<Consumer> consumers = new ArrayList<>();
+    final LongAdder dropped = new LongAdder();
+    final LongAdder failed = new LongAdder(); // events a handler threw on
+    volatile long gatingCache = -1;
+    volatile boolean running = true;
+
+    EventBus(int capacityPowerOfTwo) {
+        if (Integer.bitCount(capacityPowerOfTwo) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        slots = new Event[capacityPowerOfTwo];
+        for (int i = 0; i < slots.length; i++) slots[i] = new Event();
+        mask = capacityPowerOfTwo - 1;
+        published = new AtomicLongArray(capacityPowerOfTwo);
+        for (int i = 0; i < capacityPowerOfTwo; i++) published.set(i, -1);
+    }
+
+    /* ---------------- consumers ---------------- */
+
+    // Register every consumer before the first publish
+    void subscribe(String name, Handler handler, WaitStrategy wait) {
+        Consumer c = new Consumer(handler, wait);
+        consumers.add(c);
+        c.thread = new Thread(c, "event-" + name);
+        c.thread.setDaemon(true);
+        c.thread.start();
+    }
+
+    // Stops accepting events, lets consumers drain what was published, then waits for them
+    void shutdown() {
+        running = false;
+        for (Consumer c : consumers) {
+            try {
+                c.thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long lost = dropped.sum(), failures = failed.sum();
+        if (lost + failures > 0) {
+            System.out.println("Events dropped: " + lost + ", handler failures: " + failures);
+            System.out.flush(); // script mode buffers stdout and has already flushed it
+        }
+    }
+
+    /* ---------------- publishing ---------------- */
+
+    boolean publish(Type type, String player, String ship, int row, int col) {
+        long seq = claim();
+        if (seq < 0) return false;
+
+        Event e = slots[(int) seq & mask];
+        e.type = type;
+        e.player = player;
+        e.ship = ship;
+        e.row = row;
+        e.col = col;
+        e.opponent = null;
+        e.turns = 0;
+        e.nanoTime = System.nanoTime();
+        published.lazySet((int) seq & mask, seq);
+        return true;
+    }
+
+    // One player knocked out by another; false means the caller must store the result itself
+    boolean publishResult(String winner, String loser, int turns) {
+        long seq = claim();
+        if (seq < 0) return false;
+
+        Event e = slots[(int) seq & mask];
+        e.type = Type.PLAYER_OUT;
+        e.player = loser;
+        e.ship = null;
+        e.row = -1;
+        e.col = -1;
+        e.opponent = winner;
+        e.turns = turns;
+        e.nanoTime = System.nanoTime();
+        published.lazySet((int) seq & mask, seq);
+        return true;
+    }
+
+    // Next free sequence, or -1 when stopped or the slowest consumer is a full ring behind
+    private long claim() {
+        if (!running) return -1;
+        long seq;
+        do {
+            seq = cursor.get() + 1;
+            if (seq - slots.length > gatingCache && seq - slots.length > (gatingCache = minConsumed())) {
+                dropped.increment();
+                return -1;
+            }
+        } while (!cursor.compareAndSet(seq - 1, seq));
+        return seq;
+    }
+
+    private long minConsumed() {
+        long min = Long.MAX_VALUE;
+        for (Consumer c : consumers) min = Math.min(min, c.sequence.get());
+        return min == Long.MAX_VALUE ? cursor.get() : min;
+    }
+
+    /* ---------------- consumer loop ---------------- */
+
+    class Consumer implements Runnable {
+        final Handler handler;
+        final WaitStrategy wait;
+        final AtomicLong sequence = new AtomicLong(-1); // last event handled
+        Thread thread;
+
+        Consumer(Handler handler, WaitStrategy wait) {
+            this.handler = handler;
+            this.wait = wait;
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+            int rounds = 0;
+            while (running || next <= cursor.get()) {
+                // Take every contiguous published event as one batch
+                long last = next - 1;
+                while (last - next < mask && published.get((int) (last + 1) & mask) == last + 1) last++;
+
+                if (last < next) {
+                    if (!running && next > cursor.get()) break;
+                    wait.idle(rounds++);
+                    continue;
+                }
+                rounds = 0;
+                for (long s = next; s <= last; s++) {
+                    try {
+                        handler.onEvent(slots[(int) s & mask], s, s == last);
+                    } catch (Exception ex) {
+                        // a failing plugin must not stop the others or the game, but it is counted
+                        failed.increment();
+                    }
+                }
+                sequence.lazySet(last);
+                next = last + 1;
+            }
+        }
+    }
+
+    /* ---------------- built-in consumer ---------------- */
+
+    // Appends one line per event to a file, flushing at the end of each batch
+    static Handler fileLog(String file) throws IOException {
+        Writer out = Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return (e, seq, endOfBatch) -> {
+            out.write(seq + " " + e + "\n");
+            if (endOfBatch) out.flush();
+        };
+    }
+
+    // Stores every PLAYER_OUT in the results store, off the game thread. The game
+    // no longer writes the result itself, so a failure is reported here the same way
+    static Handler results(ResultStore store) {
+        return (e, seq, endOfBatch) -> {
+            if (e.type != Type.PLAYER_OUT) return;
+            try {
+                store.append(e.opponent, e.player, e.turns);
+            } catch (IOException ex) {
+                System.out.println("Error! Could not save the result: " + ex.getMessage());
+                System.out.flush();
+            }
+        };
+    }
+
+    /* ---------------- data types ---------------- */
+
+    // One preallocated slot, overwritten in place on every lap of the ring
+    static class Event {
+        Type type;
+        String player; // board owner for placements and shots, loser for PLAYER_OUT, winner for GAME_WON
+        String ship;
+        int row, col;
+        String opponent; // winner for PLAYER_OUT
+        int turns;
+        long nanoTime;
+
+        @Override
+        public String toString() {
+            String at = row < 0 ? "" : " " + LoadGenerator.format(new Main.Point(row, col));
+            String by = opponent == null ? "" : " by " + opponent + " in " + turns + " turns";
+            return type + " " + player + (ship == null ? "" : " " + ship) + at + by;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package battleship;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static battleship.Main.*;
+
+/**
+ * Throws random and mutated input at parse, the placement validation chain,
+ * shot handling and the targeting heat map, checking invariants after every step.
+ * Failing inputs are shrunk to a minimal reproducer before being reported.
+ */
+class Fuzzer {
+
+    static final String[] SEEDS = {
+            "F3 F7", "A1 D1", "J7 J10", "J10 J8", "B9 D8", "B9 D9", "E6 D6", "I2 J2", "A10", "j1",
+            "F3 F7 A1 D1 J10 J8 B9 D9 I2 J2",
+            "H2 H6 F3 F6 H8 F8 D4 D6 D8 C8",
+            "F3 F7 A1 D1 J10 J8 B9 D9 I2 J2 | I3 C9 F3 F4 F5 F6 F7 A1",
+    };
+    static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 \t|-+.\u0661\u00e9"; // incl. a non-ASCII digit and letter
+
+    /* ---------------- targets ---------------- */
+
+    enum Target {
+        // Any string must parse to null or to the in-bounds cell it names
+        PARSE {
+            String check(String input) {
+                Point p = parse(input);
+                if (p == null) return null;
+                if (!inBounds(p.row, p.col)) return "parse returned an out-of-bounds cell";
+                boolean named = Character.toUpperCase(input.charAt(0)) - 'A' == p.row
+                        && Integer.parseInt(input.substring(1)) == p.col + 1;
+                return named ? null : "parsed as " + LoadGenerator.format(p);
+            }
+        },
+        // A whole layout line: either rejected, or a legal non-touching fleet
+        LAYOUT {
+            String check(String input) {
+                Player p = new Player("fuzz");
+                String error = LayoutValidator.placeLayout(p, input);
+                return error != null ? null : fleetError(p);
+            }
+        },
+        // "layout | shots": every shot that parses is fired and its cell checked,
+        // then the whole board is checked once at the end
+        SHOTS {
+            String check(String input) {
+                int bar = input.indexOf('|');
+                if (bar < 0) return null;
+                Player p = new Player("fuzz");
+                if (LayoutValidator.placeLayout(p, input.substring(0, bar)) != null) return null;
+                String placed = fleetError(p);
+                if (placed != null) return placed;
+
+                int shipCells = 0, hits = 0;
+                for (Ship s : p.fleet) shipCells += s.length;
+                for (String token : input.substring(bar + 1).trim().split("\\s+")) {
+                    Point shot = parse(token);
+                    if (shot == null) continue;
+                    char before = p.real[shot.row][shot.col];
+                    ShotResult result = fire(p, shot);
+                    String error = shotError(p, shot, before, result);
+                    if (error != null) return error;
+                    if (before == SHIP) hits++;
+                }
+                String error = boardError(p);
+                if (error != null) return error;
+                return defeated(p) == (hits == shipCells) ? null : "defeat does not match " + hits + " hits";
+            }
+        },
+        // Cells to mark on a fog board, "A1" for a miss and "*A1" for a hit:
+        // the fast heat map must agree with the naive reference
+        HEATMAP {
+            String check(String input) {
+                char[][] fog = createField();
+                for (String token : input.trim().split("\\s+")) {
+                    boolean hit = token.startsWith("*");
+                    Point p = parse(hit ? token.substring(1) : token);
+                    if (p != null) fog[p.row][p.col] = hit ? HIT : MISS;
+                }
+                return ProbabilityMap.crossCheck(fog, ProbabilityMap.fleetLengths())
+                        ? null : "heat map differs from the reference";
+            }
+        };
+
+        abstract String check(String input);
+
+        // Checks the target and turns any exception into a failure message
+        String run(String input) {
+            try {
+                return check(input);
+            } catch (RuntimeException | StackOverflowError e) {
+                return e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+        }
+    }
+
+    /* ---------------- invariants ---------------- */
+
+    static String fleetError(Player p) {
+        if (p.fleet.size() != SHIPS_TO_PLACE.length) return "fleet has " + p.fleet.size() + " ships";
+
+        for (int i = 0; i < p.fleet.size(); i++) {
+            Ship s = p.fleet.get(i);
+            if (s.length != SHIPS_TO_PLACE[i].length || s.cells.size() != s.length) {
+                return s.name + " has " + s.cells.size() + " cells";
+            }
+            for (Point c : s.cells) {
+                // No cell of another ship may touch this one, diagonals included
+                for (Point n : NEIGHBOURS[c.row * SIZE + c.col]) {
+                    Ship other = findShipByCell(p.fleet, n);
+                    if (other != null && other != s) return s.name + " touches " + other.name;
+                }
+            }
+        }
+        return boardError(p);
+    }
+
+    // Per-shot check that only looks at the cell fired at and the ship on it
+    static String shotError(Player p, Point shot, char before, ShotResult result) {
+        boolean onShip = before == SHIP || before == HIT;
+        if (onShip != (result != ShotResult.MISS)) {
+            return "shot result " + result + " does not match cell '" + before + "'";
+        }
+        char real = p.real[shot.row][shot.col], fog = p.fog[shot.row][shot.col];
+        if (real != (onShip ? HIT : MISS)) return "shot cell shows '" + real + "' after " + result;
+        if (fog != real) return "fog and real board disagree at the shot cell";
+        if (!onShip) return null;
+
+        Ship ship = findShipByCell(p.fleet, shot);
+        if (ship == null) return "hit cell belongs to no ship";
+        boolean sunkNow = before == SHIP && isSunk(p.real, ship); // a re-hit never sinks again
+        return sunkNow == (result == ShotResult.SUNK) ? null : ship.name + " reported " + result;
+    }
+
+    // Whole-board check: the boards agree with each other and with the fleet
+    static String boardError(Player p) {
+        int shipCells = 0;
+        for (Ship s : p.fleet) {
+            for (Point c : s.cells) {
+                char cell = p.real[c.row][c.col];
+                if (cell != SHIP && cell != HIT) return s.name + " cell shows '" + cell + "'";
+            }
+            shipCells += s.length;
+        }
+
+        int onBoard = 0;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                char real = p.real[r][c], fog = p.fog[r][c];
+                if (real == SHIP || real == HIT) onBoard++;
+                if (fog == SHIP) return "fog reveals a ship";
+                if (fog != FOG && fog != real) return "fog and real board disagree";
+            }
+        }
+        if (onBoard != shipCells) return "board has " + onBoard + " ship cells, fleet has " + shipCells;
+        if (defeated(p) != (survivingShips(p) == 0)) return "defeat does not match sunk ships";
+        return null;
+    }
+
+    /* ---------------- generation ---------------- */
+
+    static String mutate(Random rnd, String seed) {
+        StringBuilder s = new StringBuilder(seed);
+        int edits = 1 + rnd.nextInt(4);
+        for (int e = 0; e < edits; e++) {
+            int at = s.length() == 0 ? 0 : rnd.nextInt(s.length());
+            char ch = ALPHABET.charAt(rnd.nextInt(ALPHABET.length()));
+            switch (rnd.nextInt(5)) {
+                case 0: if (s.length() > 0) s.setCharAt(at, ch); break;
+                case 1: s.insert(at, ch); break;
+                case 2: if (s.length() > 0) s.deleteCharAt(at); break;
+                case 3: s.insert(at, ' ' + SEEDS[rnd.nextInt(SEEDS.length)].split(" ")[0] + ' '); break;
+                default: s.append(' ').append(LoadGenerator.format(CELLS[rnd.nextInt(CELLS.length)]));
+            }
+        }
+        return s.toString();
+    }
+
+    static String randomInput(Random rnd, Target target) {
+        if (target == Target.SHOTS) {
+            StringBuilder s = new StringBuilder(LoadGenerator.randomLayout(rnd)).append(" |");
+            for (int i = rnd.nextInt(120); i >= 0; i--) {
+                s.append(' ').append(LoadGenerator.format(CELLS[rnd.nextInt(CELLS.length)]));
+            }
+            return rnd.nextInt(4) == 0 ? mutate(rnd, s.toString()) : s.toString();
+        }
+        if (target == Target.HEATMAP) {
+            StringBuilder s = new StringBuilder();
+            for (int i = rnd.nextInt(60); i >= 0; i--) {
+                s.append(rnd.nextInt(4) == 0 ? " *" : " ").append(LoadGenerator.format(CELLS[rnd.nextInt(CELLS.length)]));
+            }
+            return s.toString();
+        }
+        if (rnd.nextInt(4) == 0) {
+            char[] junk = new char[rnd.nextInt(24)];
+            for (int i = 0; i < junk.length; i++) junk[i] = ALPHABET.charAt(rnd.nextInt(ALPHABET.length()));
+            return new String(junk);
+        }
+        String seed = target == Target.LAYOUT && rnd.nextBoolean()
+                ? LoadGenerator.randomLayout(rnd)
+                : SEEDS[rnd.nextInt(SEEDS.length)];
+        return mutate(rnd, seed);
+    }
+
+    /* ---------------- shrinking ---------------- */
+
+    // Delta debugging on characters: drop ever smaller chunks while the failure persists
+    static String shrink(Target target, String input) {
+        String best = input;
+        for (int chunk = Math.max(1, best.length() / 2); chunk >= 1; chunk /= 2) {
+            boolean progress = true;
+            while (progress) {
+                progress = false;
+                for (int at = 0; at + chunk <= best.length(); at += chunk) {
+                    String smaller = best.substring(0, at) + best.substring(at + chunk);
+                    if (target.run(smaller) != null) {
+                        best = smaller;
+                        progress = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /* ---------------- run ---------------- */
+
+    // Each target gets this much time per turn, so a slow target cannot starve the fast ones
+    static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    static void run(int seconds, int threads) throws InterruptedException {
+        Target[] targets = Target.values();
+        AtomicLongArray executed = new AtomicLongArray(targets.length);
+        Map<String, String> failures = new ConcurrentHashMap<>(); // minimal input -> message
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            int first = t;
+            pool.execute(() -> {
+                Random rnd = new Random(seed);
+                for (int turn = first; System.nanoTime() < deadline; turn++) {
+                    Target target = targets[turn % targets.length];
+                    long sliceEnd = Math.min(deadline, System.nanoTime() + SLICE_NANOS);
+                    long local = 0;
+                    while (System.nanoTime() < sliceEnd) {
+                        String input = randomInput(rnd, target);
+                        local++;
+                        if (target.run(input) != null && failures.size() < 100) {
+                            String minimal = shrink(target, input);
+                            failures.putIfAbsent(target + " \"" + minimal + "\"", target.run(minimal));
+                        }
+                    }
+                    executed.addAndGet(target.ordinal(), local);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        long total = 0;
+        for (int i = 0; i < targets.length; i++) total += executed.get(i);
+        System.out.printf("%d inputs in %d s (%d/s) on %d threads, %d failures%n",
+                total, seconds, total / Math.max(1, seconds), threads, failures.size());
+        for (Target target : targets) {
+            // Every target gets about the same share of the run
+            double perTarget = seconds * (double) threads / targets.length;
+            System.out.printf("  %-8s %d inputs (%.0f/s)%n", target, executed.get(target.ordinal()),
+                    executed.get(target.ordinal()) / Math.max(perTarget, 1e-9));
+        }
+        failures.forEach((input, message) -> System.out.println(input + " -> " + message));
+    }
+}
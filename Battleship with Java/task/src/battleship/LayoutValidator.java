@@ -0,0 +1,91 @@
+package battleship;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.stream.IntStream;
+
+import static battleship.Main.*;
+
+/**
+ * Streams fleet layouts from a file and reports every invalid line.
+ * One layout per line: the ships of SHIPS_TO_PLACE in order, each as
+ * two coordinates, e.g. "F3 F7 A1 D1 J10 J8 B9 D9 I2 J2".
+ */
+class LayoutValidator {
+
+    static final int CHUNK = 1 << 14; // lines validated in parallel at once
+
+    /* ---------------- bulk run ---------------- */
+
+    // Returns the number of invalid layouts
+    static long run(String file) {
+        long lineNo = 0, invalid = 0;
+        long start = System.nanoTime();
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            String[] lines = new String[CHUNK];
+            String[] errors = new String[CHUNK];
+            while (true) {
+                int n = 0;
+                String line;
+                while (n < CHUNK && (line = in.readLine()) != null) lines[n++] = line;
+                if (n == 0) break;
+
+                // Lines are independent, so each chunk is checked on all cores
+                IntStream.range(0, n).parallel().forEach(i -> errors[i] = check(lines[i]));
+
+                for (int i = 0; i < n; i++) {
+                    lineNo++;
+                    if (errors[i] != null) {
+                        invalid++;
+                        out.printf("line %d: %s%n", lineNo, errors[i]);
+                    }
+                }
+                if (n < CHUNK) break;
+            }
+        } catch (IOException e) {
+            out.printf("Error! Cannot read %s: %s%n", file, e.getMessage());
+            out.flush();
+            return -1;
+        }
+
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        out.printf("%d layouts checked, %d invalid (%d ms)%n", lineNo, invalid, ms);
+        out.flush();
+        return invalid;
+    }
+
+    /* ---------------- single layout ---------------- */
+
+    // Returns null if the layout is valid, otherwise the first error found
+    static String check(String line) {
+        return placeLayout(new Player("layout"), line);
+    }
+
+    // Places a whole layout on p; returns null on success, otherwise the first error
+    static String placeLayout(Player p, String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length != 2 * SHIPS_TO_PLACE.length) {
+            return String.format("expected %d coordinates, got %d",
+                    2 * SHIPS_TO_PLACE.length, line.isBlank() ? 0 : parts.length);
+        }
+
+        for (int i = 0; i < SHIPS_TO_PLACE.length; i++) {
+            ShipSpec spec = SHIPS_TO_PLACE[i];
+            Point a = parse(parts[2 * i]);
+            Point b = parse(parts[2 * i + 1]);
+
+            String error = placementError(p.real, spec, a, b);
+            if (error != null) return spec.name + ": " + error.replace(" Try again:", "");
+
+            Ship placed = new Ship(spec.name, spec.length);
+            placed.cells = enumerateCells(a, b);
+            place(p.real, placed);
+            p.fleet.add(placed);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,382 @@
+package battleship;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static battleship.Main.*;
+
+/**
+ * Drives many synthetic games in-process and reports throughput and latency
+ * percentiles for the placement and shot paths. Two-player games each run on
+ * one thread; free-for-all games run every shooter on its own thread.
+ */
+class LoadGenerator {
+
+    static final int LAYOUT_POOL = 1024;
+
+    /* ---------------- run ---------------- */
+
+    // rate = moves per second per synthetic player, 0 for unthrottled
+    static void run(int games, int concurrency, int rate) throws InterruptedException {
+        List<String> layouts = new ArrayList<>();
+        Random rnd = new Random(42);
+        for (int i = 0; i < LAYOUT_POOL; i++) layouts.add(randomLayout(rnd));
+
+        Histogram placements = new Histogram();
+        Histogram shots = new Histogram();
+        LongAdder botWins = new LongAdder();
+        Semaphore slots = new Semaphore(concurrency);
+        ExecutorService pool = newExecutor(concurrency);
+
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            slots.acquire();
+            long seed = g;
+            pool.execute(() -> {
+                try {
+                    if (playOne(new Random(seed), layouts, rate, placements, shots) == 1) botWins.increment();
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d games, concurrency %d, %s threads, %.2f s%n",
+                games, concurrency, isVirtual(pool) ? "virtual" : "platform", seconds);
+        System.out.printf("throughput: %.0f games/s, %.0f shots/s%n",
+                games / seconds, shots.count() / seconds);
+        System.out.printf("heat-map bot (Player 2) beat random shooting in %d of %d games%n", botWins.sum(), games);
+        placements.print("placement (layout)");
+        shots.print("shot");
+    }
+
+    // Player 1 shoots at random, Player 2 aims with the heat map; returns the winner's index
+    static int playOne(Random rnd, List<String> layouts, int rate,
+                       Histogram placements, Histogram shots) {
+        Histogram myPlacements = new Histogram();
+        Histogram myShots = new Histogram();
+        // Players alternate, so the game pauses twice as often as each player moves
+        long pause = rate > 0 ? 1_000_000_000L / (2L * rate) : 0;
+
+        Player[] players = { new Player("Player 1"), new Player("Player 2") };
+        for (Player p : players) {
+            String layout = layouts.get(rnd.nextInt(layouts.size()));
+            long t = System.nanoTime();
+            LayoutValidator.placeLayout(p, layout);
+            myPlacements.record(System.nanoTime() - t);
+        }
+
+        Player winner = autoPlay(players[0], players[1], rnd, pause, myShots, true);
+
+        placements.add(myPlacements);
+        shots.add(myShots);
+        return winner == players[0] ? 0 : 1;
+    }
+
+    // Plays placed fleets to the end with random shots, timing each one; returns the winner
+    static Player autoPlay(Player first, Player second, Random rnd, long pause, Histogram shots) {
+        return autoPlay(first, second, rnd, pause, shots, false);
+    }
+
+    // With secondAims, the second player fires at the hottest unshot cell of the heat map
+    // for the ships it has not sunk yet; the heat map is not part of the timed shot
+    static Player autoPlay(Player first, Player second, Random rnd, long pause, Histogram shots,
+                           boolean secondAims) {
+        Player[] players = { first, second };
+        List<Integer> afloat = new ArrayList<>(); // lengths the aiming player has not sunk
+        for (int len : ProbabilityMap.fleetLengths()) afloat.add(len);
+
+        // Each player fires at every cell once, in random order
+        List<List<String>> orders = List.of(shuffledCells(rnd), shuffledCells(rnd));
+        int turn = 0;
+        while (true) {
+            Player opponent = players[1 - turn % 2];
+            boolean aiming = secondAims && turn % 2 == 1;
+            Point aim = aiming ? ProbabilityMap.bestTarget(opponent.fog, toArray(afloat)) : null;
+            String input = aim == null ? orders.get(turn % 2).get(turn / 2) : null;
+
+            long t = System.nanoTime();
+            Point shot = aim != null ? aim : parse(input);
+            ShotResult result = fire(opponent, shot);
+            boolean won = result != ShotResult.MISS && defeated(opponent);
+            shots.record(System.nanoTime() - t);
+
+            if (aiming && result == ShotResult.SUNK) {
+                afloat.remove(Integer.valueOf(findShipByCell(opponent.fleet, shot).length));
+            }
+            if (won) return players[turn % 2];
+            turn++;
+            if (pause > 0) sleepNanos(pause);
+        }
+    }
+
+    /* ---------------- concurrent free-for-all ---------------- */
+
+    // Every player of a game shoots from its own thread at random living opponents,
+    // so shots at one board really do race; the boards are checked after each game.
+    // concurrency = games in flight, rate = moves per second per shooter, 0 for unthrottled
+    static void runFreeForAll(int games, int players, int concurrency, int rate) throws InterruptedException {
+        Histogram shots = new Histogram();
+        Semaphore slots = new Semaphore(concurrency);
+        ExecutorService gamePool = newExecutor(concurrency);
+        ExecutorService shooterPool = newExecutor(concurrency * players);
+        LongAdder violations = new LongAdder();
+        long pause = rate > 0 ? 1_000_000_000L / rate : 0;
+
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            slots.acquire();
+            int game = g;
+            gamePool.execute(() -> {
+                try {
+                    violations.add(playFreeForAll(game, players, shooterPool, pause, shots));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+        gamePool.shutdown();
+        gamePool.awaitTermination(1, TimeUnit.DAYS);
+        shooterPool.shutdown();
+        shooterPool.awaitTermination(1, TimeUnit.DAYS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d free-for-all games, concurrency %d, %d shooter threads each (%s), %.2f s%n",
+                games, concurrency, players, isVirtual(shooterPool) ? "virtual" : "platform", seconds);
+        System.out.printf("throughput: %.0f games/s, %.0f shots/s, board violations: %d%n",
+                games / seconds, shots.count() / seconds, violations.sum());
+        shots.print("shot");
+    }
+
+    // One game with a shooter task per player; returns the number of boards that fail the check
+    static int playFreeForAll(int game, int players, ExecutorService pool, long pause, Histogram shots)
+            throws InterruptedException {
+        Random rnd = new Random(game);
+        List<Player> all = new ArrayList<>();
+        for (int i = 1; i <= players; i++) {
+            Player p = new Player("Player " + i);
+            LayoutValidator.placeLayout(p, randomLayout(rnd));
+            all.add(p);
+        }
+
+        // sunk[i] = SUNK results reported for player i's board, across all shooters
+        int[] sunk = new int[players];
+        CountDownLatch done = new CountDownLatch(players);
+        CyclicBarrier go = new CyclicBarrier(players);
+        for (int i = 0; i < players; i++) {
+            Player self = all.get(i);
+            long seed = (long) game * players + i;
+            pool.execute(() -> {
+                try {
+                    shootUntilOver(self, all, new Random(seed), sunk, go, pause, shots);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return checkBoards(all, sunk);
+    }
+
+    static void shootUntilOver(Player self, List<Player> all, Random rnd, int[] sunk,
+                               CyclicBarrier go, long pause, Histogram shots) {
+        Histogram myShots = new Histogram();
+        try {
+            go.await(); // start all shooters together
+        } catch (InterruptedException | BrokenBarrierException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        while (!defeated(self)) {
+            List<Player> targets = new ArrayList<>();
+            for (Player p : all) if (p != self && !defeated(p)) targets.add(p);
+            if (targets.isEmpty()) break;
+
+            Player target = targets.get(rnd.nextInt(targets.size()));
+            // Half the shots go to the first cells, so duplicate shots on one cell are common
+            Point shot = CELLS[rnd.nextBoolean() ? rnd.nextInt(SIZE) : rnd.nextInt(CELLS.length)];
+
+            long t = System.nanoTime();
+            ShotResult result = fire(target, shot);
+            myShots.record(System.nanoTime() - t);
+
+            if (result == ShotResult.SUNK) {
+                synchronized (sunk) {
+                    sunk[all.indexOf(target)]++;
+                }
+            }
+            if (pause > 0) sleepNanos(pause);
+        }
+        shots.add(myShots);
+    }
+
+    // Each sunk ship must be reported exactly once, however many shooters raced on its last cell
+    static int checkBoards(List<Player> all, int[] sunk) {
+        int violations = 0;
+        for (int i = 0; i < all.size(); i++) {
+            Player p = all.get(i);
+            int sunkShips = SHIPS_TO_PLACE.length - survivingShips(p);
+            if (sunkShips != sunk[i] || Fuzzer.boardError(p) != null) violations++;
+        }
+        return violations;
+    }
+
+    /* ---------------- cold start ---------------- */
+
+    // Time-to-first-move for a fresh JVM: run once per process, e.g. in a shell loop
+    static void startup() {
+        long entered = System.nanoTime();
+        Instant launched = ProcessHandle.current().info().startInstant().orElse(null);
+
+        Player first = new Player("Player 1");
+        Player second = new Player("Player 2");
+        String error = LayoutValidator.placeLayout(first, "F3 F7 A1 D1 J10 J8 B9 D9 I2 J2");
+        LayoutValidator.placeLayout(second, "H2 H6 F3 F6 H8 F8 D4 D6 D8 C8");
+        long placed = System.nanoTime();
+        fire(second, parse("I3"));
+        long moved = System.nanoTime();
+
+        // Measured from here, after argument parsing and Main's static tables; the
+        // JVM launch line below covers everything before
+        System.out.printf("bench start to placement: %.2f ms, bench start to first shot: %.2f ms%s%n",
+                (placed - entered) / 1e6, (moved - entered) / 1e6, error == null ? "" : " (" + error + ")");
+        if (launched != null) {
+            System.out.printf("JVM launch to first shot: %d ms%n",
+                    Duration.between(launched, Instant.now()).toMillis());
+        }
+    }
+
+    /* ---------------- synthetic input ---------------- */
+
+    static String randomLayout(Random rnd) {
+        while (true) {
+            char[][] f = createField();
+            StringBuilder line = new StringBuilder();
+            boolean ok = true;
+            for (ShipSpec spec : SHIPS_TO_PLACE) {
+                ok = false;
+                for (int attempt = 0; attempt < 100 && !ok; attempt++) {
+                    Point a = new Point(rnd.nextInt(SIZE), rnd.nextInt(SIZE));
+                    Point b = rnd.nextBoolean()
+                            ? new Point(a.row, a.col + spec.length - 1)
+                            : new Point(a.row + spec.length - 1, a.col);
+                    if (!inBounds(b.row, b.col) || placementError(f, spec, a, b) != null) continue;
+
+                    Ship ship = new Ship(spec.name, spec.length);
+                    ship.cells = enumerateCells(a, b);
+                    place(f, ship);
+                    line.append(format(a)).append(' ').append(format(b)).append(' ');
+                    ok = true;
+                }
+                if (!ok) break;
+            }
+            if (ok) return line.toString().trim();
+        }
+    }
+
+    static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) array[i] = values.get(i);
+        return array;
+    }
+
+    static List<String> shuffledCells(Random rnd) {
+        List<String> cells = new ArrayList<>(SIZE * SIZE);
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) cells.add(format(new Point(r, c)));
+        }
+        Collections.shuffle(cells, rnd);
+        return cells;
+    }
+
+    static String format(Point p) {
+        return (char) ('A' + p.row) + String.valueOf(p.col + 1);
+    }
+
+    /* ---------------- threading ---------------- */
+
+    // Virtual threads when the runtime has them (Java 21+), else a fixed pool
+    static ExecutorService newExecutor(int concurrency) {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    static boolean isVirtual(ExecutorService pool) {
+        return !(pool instanceof ThreadPoolExecutor);
+    }
+
+    static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* ---------------- latency histogram ---------------- */
+
+    // Log-linear buckets: 16 sub-buckets per power of two, about 6% precision
+    static class Histogram {
+        static final int SUB = 16;
+        final long[] counts = new long[64 * SUB];
+        long max;
+
+        static int bucket(long v) {
+            if (v < SUB) return (int) Math.max(v, 0);
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (exp - 4)) & (SUB - 1);
+            return (exp - 3) * SUB + sub;
+        }
+
+        static long lowerBound(int bucket) {
+            if (bucket < SUB) return bucket;
+            int exp = bucket / SUB + 3;
+            return (long) (SUB + bucket % SUB) << (exp - 4);
+        }
+
+        void record(long nanos) {
+            counts[bucket(nanos)]++;
+            if (nanos > max) max = nanos;
+        }
+
+        synchronized void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+            if (other.max > max) max = other.max;
+        }
+
+        synchronized long count() {
+            long n = 0;
+            for (long c : counts) n += c;
+            return n;
+        }
+
+        synchronized long percentile(double p) {
+            long target = (long) Math.ceil(count() * p / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) return lowerBound(i);
+            }
+            return max;
+        }
+
+        void print(String label) {
+            System.out.printf("%s latency (us): p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f  (n=%d)%n",
+                    label, percentile(50) / 1e3, percentile(90) / 1e3, percentile(99) / 1e3,
+                    percentile(99.9) / 1e3, max / 1e3, count());
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package battleship;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
 
 public class Main {
@@ -20,14 +23,211 @@ public class Main {
             new ShipSpec("Destroyer", 2)
     };
 
+    // Lookup tables built once at class load: a shared Point per cell and each cell's
+    // in-bounds 3x3 neighbourhood, so parse and canPlace do no allocation or bounds math
+    static final Point[] CELLS = new Point[SIZE * SIZE];
+    static final Point[][] NEIGHBOURS = new Point[SIZE * SIZE][];
+
+    static {
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) CELLS[r * SIZE + c] = new Point(r, c);
+        }
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                List<Point> around = new ArrayList<>(9);
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if (inBounds(r + dr, c + dc)) around.add(CELLS[(r + dr) * SIZE + c + dc]);
+                    }
+                }
+                NEIGHBOURS[r * SIZE + c] = around.toArray(new Point[0]);
+            }
+        }
+    }
+
+    // Script mode: input comes from a file or pipe, so blank pass-turn lines are optional
+    static boolean scripted = false;
+
+    // Finished games are appended here when "--results DIR" is given
+    static ResultStore results = null;
+
+    // Player names from "--names A,B,..."; by default players are "Player 1", "Player 2", ...
+    static String[] playerNames = null;
+
+    // Side effects (logs, metrics, spectators) subscribe here instead of living in the game loop
+    static EventBus events = null;
+
     /* --------------- entry point --------------- */
 
     public static void main(String[] args) {
-        Scanner sc = new Scanner(System.in);
+        // Salvo: "--salvo" fires one shot per surviving ship, "--salvo=N" fires N
+        // "--validate FILE" checks one fleet layout per line and reports every invalid line
+        // "--script FILE" (or "-" for a pipe) replays placements and shots from a file
+        // "--players N" with N > 2 starts a free-for-all
+        // "--load GAMES [--concurrency N] [--rate MOVES_PER_SEC]" runs synthetic games, N at a time,
+        // each player making MOVES_PER_SEC moves a second; with "--players N" (N > 2) they are
+        // free-for-alls with one shooter thread per player
+        // "--matchmaking PLAYERS" queues synthetic players and plays the matches formed
+        // "--startup-bench" reports time from JVM launch to the first resolved move
+        // "--results DIR" records finished games, "--history NAME" prints a player's record
+        // "--names A,B[,...]" names the players in the results and on screen
+        // "--fuzz SECONDS [--concurrency N]" fuzzes parsing, placement and shots
+        // "--sessions N [--budget KB]" soaks the in-memory/on-disk session cache
+        // "--event-log FILE" appends every game event to FILE from a background consumer
+        // "--selfcheck" runs the built-in consistency checks and exits non-zero if any fails
+        int salvo = 0;
+        String validate = null;
+        String script = null;
+        int loadGames = 0, concurrency = 64, rate = 0;
+        int players = 2;
+        int matchmaking = 0, fuzzSeconds = 0;
+        int sessions = 0, budgetKb = 1024;
+        String resultsDir = null, history = null, eventLog = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--salvo")) salvo = -1;
+                else if (arg.startsWith("--salvo=")) salvo = intFlag("--salvo", arg.substring(8), 1);
+                else if (arg.equals("--validate")) validate = flagValue(args, i++);
+                else if (arg.equals("--script")) script = flagValue(args, i++);
+                else if (arg.equals("--players")) players = intFlag(arg, flagValue(args, i++), 2);
+                else if (arg.equals("--load")) loadGames = intFlag(arg, flagValue(args, i++), 1);
+                else if (arg.equals("--concurrency")) concurrency = intFlag(arg, flagValue(args, i++), 1);
+                else if (arg.equals("--rate")) rate = intFlag(arg, flagValue(args, i++), 0);
+                else if (arg.equals("--matchmaking")) matchmaking = intFlag(arg, flagValue(args, i++), 2);
+                else if (arg.equals("--results")) resultsDir = flagValue(args, i++);
+                else if (arg.equals("--history")) history = flagValue(args, i++);
+                else if (arg.equals("--names")) playerNames = flagValue(args, i++).split(",");
+                else if (arg.equals("--sessions")) sessions = intFlag(arg, flagValue(args, i++), 1);
+                else if (arg.equals("--budget")) budgetKb = intFlag(arg, flagValue(args, i++), 1);
+                else if (arg.equals("--event-log")) eventLog = flagValue(args, i++);
+                else if (arg.equals("--fuzz")) fuzzSeconds = intFlag(arg, flagValue(args, i++), 1);
+                else if (arg.equals("--selfcheck")) System.exit(SelfCheck.run() == 0 ? 0 : 1);
+                else if (arg.equals("--startup-bench")) {
+                    LoadGenerator.startup();
+                    return;
+                }
+            }
+            // A free-for-all turn is one shot at one chosen opponent
+            if (salvo != 0 && players > 2) {
+                throw new IllegalArgumentException("Error! --salvo is only for two-player games.");
+            }
+            if (playerNames != null && playerNames.length != players) {
+                throw new IllegalArgumentException("Error! --names lists " + playerNames.length
+                        + " names for " + players + " players.");
+            }
+            if (playerNames != null && new HashSet<>(Arrays.asList(playerNames)).size() != playerNames.length) {
+                throw new IllegalArgumentException("Error! --names lists the same name twice.");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        // Records are written straight to the channel, so the store needs no close on exit
+        if (resultsDir != null) {
+            try {
+                results = new ResultStore(Paths.get(resultsDir));
+            } catch (IOException e) {
+                System.out.println("Error! Cannot open results store " + resultsDir + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        if (eventLog != null) {
+            try {
+                EventBus bus = new EventBus(1 << 14);
+                bus.subscribe("log", EventBus.fileLog(eventLog), EventBus.WaitStrategy.SLEEPING);
+                if (results != null) bus.subscribe("results", EventBus.results(results), EventBus.WaitStrategy.SLEEPING);
+                Runtime.getRuntime().addShutdownHook(new Thread(bus::shutdown));
+                events = bus;
+            } catch (IOException e) {
+                System.out.println("Error! Cannot open event log " + eventLog + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        if (history != null) {
+            printHistory(history);
+            return;
+        }
+
+        if (sessions > 0) {
+            try {
+                SessionCache.simulate(sessions, budgetKb, sessions * 10);
+            } catch (IOException e) {
+                System.out.println("Error! Session cache failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        // Bulk layout check, no game is played
+        if (validate != null) {
+            System.exit(LayoutValidator.run(validate) == 0 ? 0 : 1);
+        }
+
+        if (loadGames > 0 || matchmaking > 0 || fuzzSeconds > 0) {
+            try {
+                if (loadGames > 0 && players > 2) LoadGenerator.runFreeForAll(loadGames, players, concurrency, rate);
+                else if (loadGames > 0) LoadGenerator.run(loadGames, concurrency, rate);
+                else if (matchmaking > 0) Matchmaker.simulate(matchmaking);
+                else Fuzzer.run(fuzzSeconds, Math.min(concurrency, Runtime.getRuntime().availableProcessors()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
+        if (script == null) {
+            play(new Scanner(System.in), salvo, players);
+            return;
+        }
+
+        // Replay a whole script with buffered output instead of prompt-by-prompt
+        scripted = true;
+        PrintStream out = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(FileDescriptor.out), 1 << 16), false, StandardCharsets.UTF_8);
+        System.setOut(out);
+        try (Scanner sc = script.equals("-")
+                ? new Scanner(System.in)
+                : new Scanner(Files.newInputStream(Paths.get(script)), StandardCharsets.UTF_8)) {
+            play(sc, salvo, players);
+        } catch (IOException e) {
+            System.out.println("Error! Cannot read script " + script + ": " + e.getMessage());
+        } catch (NoSuchElementException e) {
+            System.out.println("Error! The script ended before the game was over.");
+        } finally {
+            out.flush();
+        }
+    }
+
+    /* ---------------- command line ---------------- */
+
+    static String flagValue(String[] args, int i) {
+        if (i + 1 >= args.length) throw new IllegalArgumentException("Error! " + args[i] + " needs a value.");
+        return args[i + 1];
+    }
+
+    static int intFlag(String flag, String value, int min) {
+        int n;
+        try {
+            n = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Error! " + flag + " needs a whole number, got \"" + value + "\".");
+        }
+        if (n < min) throw new IllegalArgumentException("Error! " + flag + " must be at least " + min + ", got " + n + ".");
+        return n;
+    }
+
+    static void play(Scanner sc, int salvo, int players) {
+        if (players > 2) {
+            playFreeForAll(sc, players);
+            return;
+        }
 
         // Create players
-        Player p1 = new Player("Player 1");
-        Player p2 = new Player("Player 2");
+        Player p1 = new Player(playerName(1));
+        Player p2 = new Player(playerName(2));
 
         // Player 1 placement
         System.out.println(p1.name + ", place your ships on the game field\n");
@@ -45,47 +245,40 @@ public class Main {
         Player current = p1;
         Player opponent = p2;
 
+        int turns = 0;
         while (true) {
+            turns++;
             // Show opponent fog on top and my real at bottom
-            printField(opponent.fog);
+            printBoard(opponent, true);
             System.out.println("---------------------");
-            printField(current.real);
+            printBoard(current, false);
             System.out.println();
             System.out.println(current.name + ", it's your turn:\n");
 
-            Point shot = readShot(sc);
-            // Resolve shot on opponent's boards
-            char before = opponent.real[shot.row][shot.col];
-
-            if (before == SHIP) {
-                opponent.real[shot.row][shot.col] = HIT;
-                opponent.fog[shot.row][shot.col]  = HIT;
-
-                Ship hitShip = findShipByCell(opponent.fleet, shot);
-                boolean sunkNow = hitShip != null && isSunk(opponent.real, hitShip);
-
-                if (allShipsSunk(opponent.real, opponent.fleet)) {
+            if (salvo != 0) {
+                int shots = salvo > 0 ? salvo : survivingShips(current);
+                // Resolve the whole salvo first, then check victory once
+                for (Point shot : readSalvo(sc, shots)) {
+                    System.out.println(shotMessage(fire(opponent, shot)));
+                }
+                if (defeated(opponent)) {
                     System.out.println("You sank the last ship. You won. Congratulations!");
+                    recordResult(current, opponent, turns);
+                    publish(EventBus.Type.GAME_WON, current, null, null);
                     break;
-                } else if (sunkNow) {
-                    System.out.println("You sank a ship!");
-                    promptPassTurn(sc);
-                } else {
-                    System.out.println("You hit a ship!");
-                    promptPassTurn(sc);
                 }
+                promptPassTurn(sc);
             } else {
-                // MISS, HIT, MISS again: still show miss or hit messages per rules
-                if (before == HIT) {
-                    // Re-hit same cell = still "hit"
-                    opponent.fog[shot.row][shot.col] = HIT;
-                    System.out.println("You hit a ship!");
-                } else {
-                    // before == FOG or before == MISS
-                    opponent.real[shot.row][shot.col] = MISS;
-                    opponent.fog[shot.row][shot.col]  = MISS;
-                    System.out.println("You missed!");
+                Point shot = readShot(sc);
+                ShotResult result = fire(opponent, shot);
+
+                if (result != ShotResult.MISS && defeated(opponent)) {
+                    System.out.println("You sank the last ship. You won. Congratulations!");
+                    recordResult(current, opponent, turns);
+                    publish(EventBus.Type.GAME_WON, current, null, null);
+                    break;
                 }
+                System.out.println(shotMessage(result));
                 promptPassTurn(sc);
             }
 
@@ -96,6 +289,184 @@ public class Main {
         }
     }
 
+    // Free-for-all: any number of players, each turn fires at one chosen opponent
+    static void playFreeForAll(Scanner sc, int count) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= count; i++) players.add(new Player(playerName(i)));
+
+        for (Player p : players) {
+            System.out.println(p.name + ", place your ships on the game field\n");
+            printField(p.real);
+            placeAllShips(sc, p);
+            promptPassTurn(sc);
+        }
+
+        List<Player> alive = new ArrayList<>(players);
+        Player current = alive.get(0);
+
+        int turns = 0;
+        while (true) {
+            turns++;
+            for (Player p : alive) {
+                if (p == current) continue;
+                System.out.println(p.name + ":");
+                printBoard(p, true);
+                System.out.println();
+            }
+            System.out.println("---------------------");
+            printBoard(current, false);
+            System.out.println();
+            System.out.println(current.name + ", it's your turn (enter player number and cell, e.g. 2 A1):\n");
+
+            Player target = null;
+            Point shot = null;
+            while (shot == null) {
+                String[] parts = nextLine(sc).split("\\s+");
+                target = parts.length == 2 ? findPlayer(players, alive, parts[0]) : null;
+                shot = parts.length == 2 ? parse(parts[1]) : null;
+                if (target == null || target == current) {
+                    System.out.println("\nError! Choose an opponent still in the game! Try again:\n");
+                    shot = null;
+                } else if (shot == null) {
+                    System.out.println("\nError! You entered wrong coordinates! Try again:\n");
+                }
+            }
+
+            ShotResult result = fire(target, shot);
+            if (result != ShotResult.MISS && defeated(target)) {
+                int next = (alive.indexOf(current) + 1) % alive.size();
+                Player nextPlayer = alive.get(next) == target ? alive.get((next + 1) % alive.size()) : alive.get(next);
+                alive.remove(target);
+                recordResult(current, target, turns);
+                if (alive.size() == 1) {
+                    publish(EventBus.Type.GAME_WON, current, null, null);
+                    System.out.println("You sank the last ship. You won. Congratulations!");
+                    break;
+                }
+                System.out.println("You sank the last ship of " + target.name + ". " + target.name + " is out!");
+                promptPassTurn(sc);
+                current = nextPlayer;
+                continue;
+            }
+            System.out.println(shotMessage(result));
+            promptPassTurn(sc);
+
+            current = alive.get((alive.indexOf(current) + 1) % alive.size());
+        }
+    }
+
+    /* ---------------- results ---------------- */
+
+    // With the event bus running, the "results" consumer stores it off the game thread
+    static void recordResult(Player winner, Player loser, int turns) {
+        if (events != null && events.publishResult(winner.name, loser.name, turns)) return;
+        if (results == null) return;
+        try {
+            results.append(winner.name, loser.name, turns);
+        } catch (IOException e) {
+            System.out.println("Error! Could not save the result: " + e.getMessage());
+        }
+    }
+
+    static void printHistory(String name) {
+        if (results == null) {
+            System.out.println("Error! --history needs --results DIR");
+            return;
+        }
+        try {
+            System.out.printf("%s: win rate %.1f%%%n", name, 100 * results.winRate(name));
+            for (ResultStore.Game g : results.lastGames(name, 10)) {
+                System.out.printf("%tF %<tT  %s beat %s in %d turns%n",
+                        new Date(g.time), g.winner, g.loser, g.turns);
+            }
+        } catch (IOException e) {
+            System.out.println("Error! Cannot read results: " + e.getMessage());
+        }
+    }
+
+    static String playerName(int number) {
+        return playerNames != null ? playerNames[number - 1] : "Player " + number;
+    }
+
+    // Players are chosen by their 1-based seat number, whatever their names
+    static Player findPlayer(List<Player> players, List<Player> alive, String number) {
+        int seat;
+        try {
+            seat = Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (seat < 1 || seat > players.size()) return null;
+        Player p = players.get(seat - 1);
+        return alive.contains(p) ? p : null;
+    }
+
+    /* ---------------- shooting ---------------- */
+
+    enum ShotResult { MISS, HIT, SUNK }
+
+    // Resolves one shot on the target's boards without any console output.
+    // Each board has its own lock, so shots at different players never contend
+    static ShotResult fire(Player target, Point shot) {
+        synchronized (target.lock) {
+            char before = target.real[shot.row][shot.col];
+
+            if (before == SHIP) {
+                target.real[shot.row][shot.col] = HIT;
+                target.fog[shot.row][shot.col]  = HIT;
+
+                Ship hitShip = findShipByCell(target.fleet, shot);
+                if (hitShip != null && isSunk(target.real, hitShip)) {
+                    publish(EventBus.Type.SHIP_SUNK, target, hitShip.name, shot);
+                    return ShotResult.SUNK;
+                }
+                publish(EventBus.Type.SHOT_HIT, target, null, shot);
+                return ShotResult.HIT;
+            }
+            if (before == HIT) {
+                // Re-hit same cell = still "hit"
+                target.fog[shot.row][shot.col] = HIT;
+                publish(EventBus.Type.SHOT_HIT, target, null, shot);
+                return ShotResult.HIT;
+            }
+            // before == FOG or before == MISS
+            target.real[shot.row][shot.col] = MISS;
+            target.fog[shot.row][shot.col]  = MISS;
+            publish(EventBus.Type.SHOT_MISSED, target, null, shot);
+            return ShotResult.MISS;
+        }
+    }
+
+    static void publish(EventBus.Type type, Player player, String ship, Point at) {
+        if (events == null) return;
+        events.publish(type, player.name, ship, at == null ? -1 : at.row, at == null ? -1 : at.col);
+    }
+
+    static boolean defeated(Player p) {
+        synchronized (p.lock) {
+            return allShipsSunk(p.real, p.fleet);
+        }
+    }
+
+    static String shotMessage(ShotResult result) {
+        switch (result) {
+            case SUNK: return "You sank a ship!";
+            case HIT:  return "You hit a ship!";
+            default:   return "You missed!";
+        }
+    }
+
+    static int survivingShips(Player p) {
+        synchronized (p.lock) {
+            int alive = 0;
+            for (Ship s : p.fleet) {
+                if (!isSunk(p.real, s)) alive++;
+            }
+            return alive;
+        }
+    }
+
+
     /* ---------------- placement pipeline ---------------- */
 
     static void placeAllShips(Scanner sc, Player p) {
@@ -104,35 +475,21 @@ public class Main {
                     spec.name, spec.length);
 
             while (true) {
-                String line = sc.nextLine().trim();
+                String line = nextLine(sc);
                 String[] parts = line.split("\\s+");
-                if (parts.length != 2) {
-                    System.out.printf("Error! Wrong ship location! Try again:%n%n");
-                    continue;
-                }
+                Point a = parts.length == 2 ? parse(parts[0]) : null;
+                Point b = parts.length == 2 ? parse(parts[1]) : null;
 
-                Point a = parse(parts[0]);
-                Point b = parse(parts[1]);
-
-                if (a == null || b == null || !isStraight(a, b)) {
-                    System.out.printf("Error! Wrong ship location! Try again:%n%n");
-                    continue;
-                }
-
-                int len = segmentLength(a, b);
-                if (len != spec.length) {
-                    System.out.printf("Error! Wrong length of the %s! Try again:%n%n", spec.name);
-                    continue;
-                }
-
-                if (!canPlace(p.real, a, b)) {
-                    System.out.printf("Error! You placed it too close to another one. Try again:%n%n");
+                String error = placementError(p.real, spec, a, b);
+                if (error != null) {
+                    System.out.printf("%s%n%n", error);
                     continue;
                 }
 
                 Ship placed = new Ship(spec.name, spec.length);
                 placed.cells = enumerateCells(a, b);
                 place(p.real, placed);
+                publish(EventBus.Type.SHIP_PLACED, p, placed.name, placed.cells.get(0));
                 p.fleet.add(placed);
 
                 System.out.println();
@@ -142,14 +499,44 @@ public class Main {
         }
     }
 
+    // Returns null if spec may be placed from a to b, otherwise the error to show
+    static String placementError(char[][] f, ShipSpec spec, Point a, Point b) {
+        if (a == null || b == null || !isStraight(a, b)) {
+            return "Error! Wrong ship location! Try again:";
+        }
+        if (segmentLength(a, b) != spec.length) {
+            return String.format("Error! Wrong length of the %s! Try again:", spec.name);
+        }
+        if (!canPlace(f, a, b)) {
+            return "Error! You placed it too close to another one. Try again:";
+        }
+        return null;
+    }
+
     /* ---------------- UI helpers ---------------- */
 
     static void promptPassTurn(Scanner sc) {
         System.out.println("\nPress Enter and pass the move to another player");
-        sc.nextLine(); // wait for Enter
+        if (!scripted) sc.nextLine(); // wait for Enter
         System.out.println();
     }
 
+    // Next trimmed input line; scripts may omit or keep the blank pass-turn lines
+    static String nextLine(Scanner sc) {
+        String line = sc.nextLine().trim();
+        while (scripted && line.isEmpty()) line = sc.nextLine().trim();
+        return line;
+    }
+
+    // Prints a copy taken under the board lock, so a concurrent shot never tears the picture
+    static void printBoard(Player p, boolean fogView) {
+        char[][] copy = new char[SIZE][];
+        synchronized (p.lock) {
+            for (int r = 0; r < SIZE; r++) copy[r] = (fogView ? p.fog : p.real)[r].clone();
+        }
+        printField(copy);
+    }
+
     static void printField(char[][] f) {
         // header
         System.out.print("  ");
@@ -171,24 +558,41 @@ public class Main {
 
     static Point readShot(Scanner sc) {
         while (true) {
-            String s = sc.nextLine().trim();
+            String s = nextLine(sc);
             Point p = parse(s);
             if (p != null) return p;
             System.out.println("\nError! You entered wrong coordinates! Try again:\n");
         }
     }
 
+    static List<Point> readSalvo(Scanner sc, int shots) {
+        while (true) {
+            String[] parts = nextLine(sc).split("\\s+");
+            List<Point> salvo = new ArrayList<>(shots);
+            for (String part : parts) {
+                Point p = parse(part);
+                if (p == null) break;
+                salvo.add(p);
+            }
+            if (salvo.size() == parts.length && salvo.size() == shots) return salvo;
+            System.out.printf("%nError! Enter exactly %d coordinates! Try again:%n%n", shots);
+        }
+    }
+
     /* ---------------- parsing & validation ---------------- */
 
     static Point parse(String s) {
-        if (s == null || s.length() < 2) return null;
+        if (s == null || s.length() < 2 || s.length() > 3) return null;
         char rowCh = Character.toUpperCase(s.charAt(0));
         if (rowCh < 'A' || rowCh > 'J') return null;
-        String num = s.substring(1);
-        if (!num.matches("\\d{1,2}")) return null;
-        int col = Integer.parseInt(num);
+        int col = 0;
+        for (int i = 1; i < s.length(); i++) {
+            char d = s.charAt(i);
+            if (d < '0' || d > '9') return null;
+            col = col * 10 + (d - '0');
+        }
         if (col < 1 || col > 10) return null;
-        return new Point(rowCh - 'A', col - 1);
+        return CELLS[(rowCh - 'A') * SIZE + col - 1];
     }
 
     static boolean isStraight(Point a, Point b) {
@@ -214,11 +618,8 @@ public class Main {
                 if (a.col != b.col && r != a.row) continue; // horizontal ship
 
                 // Check 8-neighborhood for any existing ship
-                for (int dr = -1; dr <= 1; dr++) {
-                    for (int dc = -1; dc <= 1; dc++) {
-                        int nr = r + dr, nc = c + dc;
-                        if (inBounds(nr, nc) && f[nr][nc] == SHIP) return false;
-                    }
+                for (Point n : NEIGHBOURS[r * SIZE + c]) {
+                    if (f[n.row][n.col] == SHIP) return false;
                 }
             }
         }
@@ -234,11 +635,11 @@ public class Main {
         if (a.row == b.row) { // horizontal
             int c1 = Math.min(a.col, b.col);
             int c2 = Math.max(a.col, b.col);
-            for (int c = c1; c <= c2; c++) list.add(new Point(a.row, c));
+            for (int c = c1; c <= c2; c++) list.add(CELLS[a.row * SIZE + c]);
         } else { // vertical
             int r1 = Math.min(a.row, b.row);
             int r2 = Math.max(a.row, b.row);
-            for (int r = r1; r <= r2; r++) list.add(new Point(r, a.col));
+            for (int r = r1; r <= r2; r++) list.add(CELLS[r * SIZE + a.col]);
         }
         return list;
     }
@@ -279,6 +680,7 @@ public class Main {
         final char[][] real; // true board
         final char[][] fog;  // opponent's view of this board
         final List<Ship> fleet = new ArrayList<>();
+        final Object lock = new Object(); // guards real, fog and fleet once shooting starts
         Player(String name) {
             this.name = name;
             this.real = createField();
@@ -0,0 +1,183 @@
+package battleship;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static battleship.Main.*;
+
+/**
+ * Pairs waiting players into two-player games by rating and wait time.
+ * Joins only touch the queue of their rating band; pairing happens in
+ * batches on a scheduler tick.
+ */
+class Matchmaker {
+
+    static final int BAND_WIDTH = 100;
+    static final int BANDS = 40;           // ratings 0..3999, outliers clamp to the edge bands
+    static final int BASE_SPREAD = 100;    // allowed rating gap for a fresh ticket
+    static final int SPREAD_PER_SEC = 200; // the gap widens while a ticket waits
+
+    final List<Queue<Ticket>> bands = new ArrayList<>(BANDS);
+    final Consumer<Match> onMatch;
+    ScheduledExecutorService scheduler;
+    volatile long failedMatches; // written by the tick thread only
+
+    Matchmaker(Consumer<Match> onMatch) {
+        this.onMatch = onMatch;
+        for (int i = 0; i < BANDS; i++) bands.add(new ConcurrentLinkedQueue<>());
+    }
+
+    /* ---------------- joining ---------------- */
+
+    void join(String name, int rating) {
+        bands.get(band(rating)).add(new Ticket(name, rating, System.nanoTime()));
+    }
+
+    static int band(int rating) {
+        return Math.max(0, Math.min(BANDS - 1, rating / BAND_WIDTH));
+    }
+
+    /* ---------------- scheduling ---------------- */
+
+    void start(long periodMillis) {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleAtFixedRate(this::tick, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Waits for a running tick to finish, so no batch is cut off halfway
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    // Drains every band once and pairs neighbours in rating order.
+    // Unpaired tickets spill into the next band's batch, then go back to their own queue.
+    void tick() {
+        long now = System.nanoTime();
+        List<Ticket> carry = new ArrayList<>();
+        List<Ticket> batch = carry;
+        int i = 0;
+        try {
+            for (Queue<Ticket> queue : bands) {
+                batch = carry;
+                carry = new ArrayList<>();
+                i = 0;
+                for (Ticket t; (t = queue.poll()) != null; ) batch.add(t);
+                batch.sort(Comparator.comparingInt(t -> t.rating));
+
+                while (i < batch.size()) {
+                    Ticket a = batch.get(i);
+                    if (i + 1 < batch.size() && acceptable(a, batch.get(i + 1), now)) {
+                        Ticket b = batch.get(i + 1);
+                        try {
+                            onMatch.accept(new Match(a, b, System.nanoTime()));
+                        } catch (RuntimeException e) {
+                            // the game could not start: both players wait for the next tick
+                            failedMatches++;
+                            carry.add(a);
+                            carry.add(b);
+                        }
+                        i += 2; // only now, so an Error out of onMatch requeues a and b below
+                    } else {
+                        carry.add(a);
+                        i++;
+                    }
+                }
+            }
+        } finally {
+            // Everything taken off a queue and not matched goes back, even if the tick failed
+            for (Ticket t : carry) bands.get(band(t.rating)).add(t);
+            for (int k = i; k < batch.size(); k++) bands.get(band(batch.get(k).rating)).add(batch.get(k));
+        }
+    }
+
+    static boolean acceptable(Ticket a, Ticket b, long now) {
+        long waited = Math.min(now - a.enqueuedAt, now - b.enqueuedAt);
+        long spread = BASE_SPREAD + SPREAD_PER_SEC * TimeUnit.NANOSECONDS.toSeconds(waited);
+        return Math.abs(a.rating - b.rating) <= spread;
+    }
+
+    /* ---------------- demo / soak run ---------------- */
+
+    // Joins synthetic players from several threads and plays every formed match
+    static void simulate(int playerCount) throws InterruptedException {
+        ExecutorService games = LoadGenerator.newExecutor(Runtime.getRuntime().availableProcessors());
+        AtomicLong matches = new AtomicLong();
+        AtomicLong ratingGap = new AtomicLong();
+        LoadGenerator.Histogram waits = new LoadGenerator.Histogram();
+
+        Matchmaker mm = new Matchmaker(match -> {
+            matches.incrementAndGet();
+            ratingGap.addAndGet(Math.abs(match.first.rating - match.second.rating));
+            synchronized (waits) {
+                waits.record(match.formedAt - match.first.enqueuedAt);
+                waits.record(match.formedAt - match.second.enqueuedAt);
+            }
+            games.execute(() -> match.play(new Random(match.formedAt)));
+        });
+        mm.start(50);
+
+        int joiners = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(joiners);
+        for (int j = 0; j < joiners; j++) {
+            int from = j;
+            pool.execute(() -> {
+                Random rnd = new Random(from);
+                for (int i = from; i < playerCount; i += joiners) {
+                    int rating = (int) Math.max(0, 1500 + rnd.nextGaussian() * 400);
+                    mm.join("Player " + (i + 1), rating);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        // Stragglers at the rating extremes need their spread to grow before they pair up
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (matches.get() < playerCount / 2 && System.nanoTime() < deadline) Thread.sleep(50);
+        mm.stop();
+        games.shutdown();
+        games.awaitTermination(1, TimeUnit.MINUTES);
+
+        long formed = matches.get();
+        System.out.printf("%d players, %d matches, mean rating gap %.1f, failed starts %d%n",
+                playerCount, formed, formed == 0 ? 0.0 : (double) ratingGap.get() / formed, mm.failedMatches);
+        System.out.printf("wait (ms): p50 %.1f  p99 %.1f  max %.1f%n",
+                waits.percentile(50) / 1e6, waits.percentile(99) / 1e6, waits.max / 1e6);
+    }
+
+    /* ---------------- data types ---------------- */
+
+    static class Ticket {
+        final String name;
+        final int rating;
+        final long enqueuedAt;
+        Ticket(String name, int rating, long enqueuedAt) {
+            this.name = name;
+            this.rating = rating;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    static class Match {
+        final Ticket first, second;
+        final long formedAt;
+        final Player p1, p2;
+        Match(Ticket first, Ticket second, long formedAt) {
+            this.first = first;
+            this.second = second;
+            this.formedAt = formedAt;
+            this.p1 = new Player(first.name);
+            this.p2 = new Player(second.name);
+        }
+
+        // Places random legal fleets and plays the game out with the normal rules
+        Player play(Random rnd) {
+            LayoutValidator.placeLayout(p1, LoadGenerator.randomLayout(rnd));
+            LayoutValidator.placeLayout(p2, LoadGenerator.randomLayout(rnd));
+            return LoadGenerator.autoPlay(p1, p2, rnd, 0, new LoadGenerator.Histogram());
+        }
+    }
+}
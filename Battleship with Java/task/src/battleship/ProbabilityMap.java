@@ -0,0 +1,114 @@
+package battleship;
+
+import java.util.Arrays;
+
+import static battleship.Main.*;
+
+/**
+ * Heat map for a targeting bot: for every cell of a fog board, the number of
+ * placements of the given ship lengths that cover it.
+ * A placement counts if none of its cells is a known miss. Callers pass the
+ * lengths they believe are still afloat; sunk ships' cells and the no-touch
+ * rule are not taken into account.
+ */
+class ProbabilityMap {
+
+    /* ---------------- public helpers ---------------- */
+
+    static int[] fleetLengths() {
+        int[] lengths = new int[SHIPS_TO_PLACE.length];
+        for (int i = 0; i < lengths.length; i++) lengths[i] = SHIPS_TO_PLACE[i].length;
+        return lengths;
+    }
+
+    // Highest-scoring cell that has not been shot yet, or null if none is left.
+    // Used by the aiming player of the load generator
+    static Point bestTarget(char[][] fog, int[] lengths) {
+        int[][] heat = heatMap(fog, lengths);
+        int bestR = -1, bestC = -1, best = -1;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                if (fog[r][c] == FOG && heat[r][c] > best) {
+                    best = heat[r][c];
+                    bestR = r;
+                    bestC = c;
+                }
+            }
+        }
+        return best < 0 ? null : CELLS[bestR * SIZE + bestC];
+    }
+
+    /* ---------------- fast kernel ---------------- */
+
+    // Counts placements with run lengths and a difference array: O(SIZE^2) per ship length
+    static int[][] heatMap(char[][] fog, int[] lengths) {
+        int[] weight = new int[SIZE + 1]; // ships per length; equal lengths share one pass
+        for (int len : lengths) if (len >= 1 && len <= SIZE) weight[len]++;
+
+        int[][] heat = new int[SIZE][SIZE];
+        int[] run = new int[SIZE + 1];
+        int[] diff = new int[SIZE + 1];
+
+        for (int horizontal = 0; horizontal < 2; horizontal++) {
+            for (int line = 0; line < SIZE; line++) {
+                // run[i] = open cells from i onwards along this row/column
+                run[SIZE] = 0;
+                for (int i = SIZE - 1; i >= 0; i--) {
+                    char cell = horizontal == 1 ? fog[line][i] : fog[i][line];
+                    run[i] = cell == MISS ? 0 : run[i + 1] + 1;
+                }
+
+                Arrays.fill(diff, 0);
+                for (int len = 1; len <= SIZE; len++) {
+                    int w = weight[len];
+                    if (w == 0 || (len == 1 && horizontal == 0)) continue; // 1x1 counted once
+                    for (int i = 0; i + len <= SIZE; i++) {
+                        int starts = run[i] >= len ? w : 0;
+                        diff[i] += starts;
+                        diff[i + len] -= starts;
+                    }
+                }
+
+                int covered = 0;
+                for (int i = 0; i < SIZE; i++) {
+                    covered += diff[i];
+                    if (horizontal == 1) heat[line][i] += covered;
+                    else heat[i][line] += covered;
+                }
+            }
+        }
+        return heat;
+    }
+
+    /* ---------------- reference & cross-check ---------------- */
+
+    // Straightforward sliding-window count used to verify the kernel
+    static int[][] heatMapNaive(char[][] fog, int[] lengths) {
+        int[][] heat = new int[SIZE][SIZE];
+        for (int len : lengths) {
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c < SIZE; c++) {
+                    if (fits(fog, r, c, 0, 1, len)) {
+                        for (int k = 0; k < len; k++) heat[r][c + k]++;
+                    }
+                    if (len > 1 && fits(fog, r, c, 1, 0, len)) {
+                        for (int k = 0; k < len; k++) heat[r + k][c]++;
+                    }
+                }
+            }
+        }
+        return heat;
+    }
+
+    static boolean crossCheck(char[][] fog, int[] lengths) {
+        return Arrays.deepEquals(heatMap(fog, lengths), heatMapNaive(fog, lengths));
+    }
+
+    private static boolean fits(char[][] fog, int r, int c, int dr, int dc, int len) {
+        for (int k = 0; k < len; k++) {
+            int nr = r + k * dr, nc = c + k * dc;
+            if (!inBounds(nr, nc) || fog[nr][nc] == MISS) return false;
+        }
+        return true;
+    }
+}
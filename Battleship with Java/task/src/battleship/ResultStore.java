@@ -0,0 +1,243 @@
+package battleship;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local, append-only store of finished games.
+ * games.dat holds fixed-size records (time, winner id, loser id, turns) and
+ * players.txt maps ids to names, one per line. Indexes by player and by time
+ * are kept in memory and caught up from disk under a file lock before every
+ * read or write, so several games (in one JVM or many) can share a directory.
+ */
+class ResultStore implements Closeable {
+
+    static final int RECORD = 20; // long time + int winner + int loser + int turns
+
+    // FileLock is per process; stores on the same directory inside one JVM also share a monitor
+    private static final Map<Path, Object> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    final FileChannel games;
+    final FileChannel players;
+    final Object local;
+    final List<String> names = new ArrayList<>();
+    final Map<String, Integer> ids = new HashMap<>();
+
+    // Indexes: record positions per player id, and the time of every indexed record
+    final List<IntList> byPlayer = new ArrayList<>();
+    final List<int[]> record = new ArrayList<>(); // {wins, losses} per player id
+    long[] times = new long[1024];
+    int count;        // records indexed
+    long records;     // complete records read from games.dat, indexed or skipped
+    long skipped;     // records naming a player id that players.txt does not have
+    long playersRead; // bytes of players.txt consumed, always at a line end
+    private ByteBuffer scan; // read buffer for catching up on games.dat
+
+    ResultStore(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        local = LOCAL_LOCKS.computeIfAbsent(dir.toAbsolutePath().normalize(), k -> new Object());
+        players = FileChannel.open(dir.resolve("players.txt"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        games = FileChannel.open(dir.resolve("games.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        synchronized (local) {
+            FileLock lock = games.lock();
+            try {
+                catchUp();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /* ---------------- writing ---------------- */
+
+    // Appends after whatever other writers added since our last look
+    synchronized void append(String winner, String loser, int turns) throws IOException {
+        if (winner.equals(loser)) throw new IllegalArgumentException(winner + " cannot beat themselves");
+        synchronized (local) {
+            FileLock lock = games.lock();
+            try {
+                catchUp();
+                int w = idFor(winner), l = idFor(loser);
+                long now = System.currentTimeMillis();
+
+                ByteBuffer buf = ByteBuffer.allocate(RECORD);
+                buf.putLong(now).putInt(w).putInt(l).putInt(turns).flip();
+                long pos = records * RECORD; // a torn trailing record is overwritten
+                while (buf.hasRemaining()) pos += games.write(buf, pos);
+
+                index(now, w, l, records++);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private int idFor(String name) throws IOException {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+
+        // The name is on disk before any record refers to it
+        ByteBuffer line = ByteBuffer.wrap((name + "\n").getBytes(StandardCharsets.UTF_8));
+        players.truncate(playersRead); // drop a torn last line
+        while (line.hasRemaining()) playersRead += players.write(line, playersRead);
+        return register(name);
+    }
+
+    private int register(String name) {
+        int id = names.size();
+        names.add(name);
+        ids.put(name, id);
+        byPlayer.add(new IntList());
+        record.add(new int[2]);
+        return id;
+    }
+
+    /* ---------------- queries ---------------- */
+
+    // Most recent first
+    synchronized List<Game> lastGames(String player, int n) throws IOException {
+        refresh();
+        List<Game> result = new ArrayList<>();
+        Integer id = ids.get(player);
+        if (id == null) return result;
+
+        IntList games = byPlayer.get(id);
+        ByteBuffer buf = ByteBuffer.allocate(RECORD);
+        for (int i = games.size - 1; i >= 0 && result.size() < n; i--) {
+            buf.clear();
+            long pos = (long) games.data[i] * RECORD;
+            while (buf.hasRemaining()) {
+                if (this.games.read(buf, pos + buf.position()) < 0) {
+                    throw new EOFException("games.dat ends inside record " + games.data[i]);
+                }
+            }
+            buf.flip();
+            result.add(new Game(buf.getLong(), names.get(buf.getInt()), names.get(buf.getInt()), buf.getInt()));
+        }
+        return result;
+    }
+
+    synchronized double winRate(String player) throws IOException {
+        refresh();
+        Integer id = ids.get(player);
+        if (id == null) return 0;
+        int[] wl = record.get(id);
+        return wl[0] + wl[1] == 0 ? 0 : (double) wl[0] / (wl[0] + wl[1]);
+    }
+
+    // Number of games finished in [fromMillis, toMillis)
+    synchronized int countBetween(long fromMillis, long toMillis) throws IOException {
+        refresh();
+        return lowerBound(toMillis) - lowerBound(fromMillis);
+    }
+
+    private int lowerBound(long time) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /* ---------------- indexing ---------------- */
+
+    private void refresh() throws IOException {
+        synchronized (local) {
+            FileLock lock = games.lock();
+            try {
+                catchUp();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    // Reads whatever other writers appended since the last call; caller holds the file lock
+    private void catchUp() throws IOException {
+        long size = players.size();
+        if (size > playersRead) {
+            ByteBuffer buf = ByteBuffer.allocate((int) (size - playersRead));
+            while (buf.hasRemaining() && players.read(buf, playersRead + buf.position()) > 0) { }
+            byte[] bytes = buf.array();
+            int lineStart = 0;
+            for (int i = 0; i < buf.position(); i++) {
+                if (bytes[i] != '\n') continue;
+                register(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                lineStart = i + 1;
+            }
+            playersRead += lineStart; // a line without its newline is torn and left unread
+        }
+
+        long onDisk = games.size() / RECORD; // a torn trailing record is ignored
+        // Allocated on the first scan that has records to read, then reused
+        if (records < onDisk && scan == null) scan = ByteBuffer.allocateDirect(RECORD * 8192);
+        ByteBuffer buf = scan;
+        while (records < onDisk) {
+            buf.clear();
+            int n = games.read(buf, records * RECORD);
+            if (n <= 0) break;
+            buf.flip();
+            while (buf.remaining() >= RECORD && records < onDisk) {
+                long time = buf.getLong();
+                int winner = buf.getInt(), loser = buf.getInt();
+                buf.getInt();
+                // An id missing from players.txt (e.g. after a crash) cannot be indexed
+                if (winner < 0 || loser < 0 || winner >= names.size() || loser >= names.size()) skipped++;
+                else index(time, winner, loser, records);
+                records++;
+            }
+        }
+    }
+
+    private void index(long time, int winner, int loser, long position) {
+        if (count == times.length) times = Arrays.copyOf(times, count * 2);
+        // Clock steps backwards must not break the binary search
+        times[count] = count > 0 ? Math.max(time, times[count - 1]) : time;
+        byPlayer.get(winner).add((int) position);
+        byPlayer.get(loser).add((int) position);
+        record.get(winner)[0]++;
+        record.get(loser)[1]++;
+        count++;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        games.force(false);
+        games.close();
+        players.force(false);
+        players.close();
+    }
+
+    /* ---------------- data types ---------------- */
+
+    static class Game {
+        final long time;
+        final String winner, loser;
+        final int turns;
+        Game(long time, String winner, String loser, int turns) {
+            this.time = time;
+            this.winner = winner;
+            this.loser = loser;
+            this.turns = turns;
+        }
+    }
+
+    static class IntList {
+        int[] data = new int[4];
+        int size;
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+    }
+}
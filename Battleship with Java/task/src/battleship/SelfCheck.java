@@ -0,0 +1,284 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repeatable checks for the file-backed and concurrent parts that the
+ * stage tests never reach. Each check returns null when it passes or a
+ * message describing what went wrong; temporary files are always removed.
+ */
+class SelfCheck {
+
+    interface Check {
+        String run() throws Exception;
+    }
+
+    // Runs every check and returns the number that failed
+    static int run() {
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("results: two stores on one directory see each other's games", SelfCheck::resultsShared);
+        checks.put("results: reopen skips unknown ids and torn tails", SelfCheck::resultsDamaged);
+        checks.put("results: a player cannot beat themselves", SelfCheck::resultsSelfGame);
+        checks.put("events: shutdown drains every published event", SelfCheck::eventsDrain);
+        checks.put("events: a full ring drops and counts instead of blocking", SelfCheck::eventsFull);
+        checks.put("events: handler failures are counted", SelfCheck::eventsFailures);
+        checks.put("events: the results consumer stores knocked-out players", SelfCheck::eventsResults);
+        checks.put("matchmaker: failed game starts lose no tickets", SelfCheck::matchmakerFailures);
+        checks.put("matchmaker: stop waits for the running tick", SelfCheck::matchmakerStop);
+        checks.put("sessions: moves survive eviction under a tiny budget", SelfCheck::sessionsRoundTrip);
+
+        int failed = 0;
+        for (Map.Entry<String, Check> check : checks.entrySet()) {
+            String error;
+            try {
+                error = check.getValue().run();
+            } catch (Exception e) {
+                error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+            if (error != null) failed++;
+            System.out.println((error == null ? "ok   " : "FAIL ") + check.getKey()
+                    + (error == null ? "" : ": " + error));
+        }
+        System.out.println(checks.size() + " checks, " + failed + " failed");
+        return failed;
+    }
+
+    /* ---------------- results store ---------------- */
+
+    static String resultsShared() throws IOException {
+        Path dir = Files.createTempDirectory("selfcheck");
+        try {
+            try (ResultStore first = new ResultStore(dir); ResultStore second = new ResultStore(dir)) {
+                first.append("Alice", "Bob", 10);
+                second.append("Carol", "Dave", 12);
+                // The first store catches up on the second one's game before answering
+                if (first.winRate("Carol") != 1.0) return "Carol's game is missing from the other store";
+            }
+            try (ResultStore reopened = new ResultStore(dir)) {
+                if (reopened.count != 2) return "reopened store has " + reopened.count + " games";
+                List<ResultStore.Game> alice = reopened.lastGames("Alice", 5);
+                List<ResultStore.Game> dave = reopened.lastGames("Dave", 5);
+                if (alice.size() != 1 || !alice.get(0).loser.equals("Bob")) return "Alice's game was not kept";
+                if (dave.size() != 1 || !dave.get(0).winner.equals("Carol")) return "Dave's game was not kept";
+            }
+            return null;
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    static String resultsDamaged() throws IOException {
+        Path dir = Files.createTempDirectory("selfcheck");
+        try {
+            try (ResultStore store = new ResultStore(dir)) {
+                store.append("Alice", "Bob", 10);
+            }
+            // A record naming id 99, half a record, and a name without its newline
+            try (FileChannel games = FileChannel.open(dir.resolve("games.dat"), StandardOpenOption.APPEND)) {
+                ByteBuffer bad = ByteBuffer.allocate(ResultStore.RECORD + 7);
+                bad.putLong(0).putInt(99).putInt(0).putInt(1).flip();
+                games.write(bad);
+            }
+            Files.write(dir.resolve("players.txt"), "Tor".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+            try (ResultStore store = new ResultStore(dir)) {
+                if (store.count != 1 || store.skipped != 1) {
+                    return store.count + " games indexed and " + store.skipped + " skipped, expected 1 and 1";
+                }
+                store.append("Erin", "Alice", 7);
+            }
+            try (ResultStore store = new ResultStore(dir)) {
+                if (!store.names.equals(List.of("Alice", "Bob", "Erin"))) return "players are " + store.names;
+                if (store.count != 2 || store.winRate("Alice") != 0.5) return "Erin's game was not kept";
+            }
+            return null;
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    static String resultsSelfGame() throws IOException {
+        Path dir = Files.createTempDirectory("selfcheck");
+        try (ResultStore store = new ResultStore(dir)) {
+            store.append("Bob", "Bob", 3);
+            return "Bob beat Bob was stored";
+        } catch (IllegalArgumentException expected) {
+            return null;
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    /* ---------------- event bus ---------------- */
+
+    static String eventsDrain() {
+        EventBus bus = new EventBus(1024);
+        AtomicInteger handled = new AtomicInteger();
+        bus.subscribe("count", (e, seq, end) -> handled.incrementAndGet(), EventBus.WaitStrategy.SLEEPING);
+        for (int i = 0; i < 500; i++) {
+            if (!bus.publish(EventBus.Type.SHOT_MISSED, "p", null, 0, 0)) return "event " + i + " was refused";
+        }
+        bus.shutdown();
+        return handled.get() == 500 ? null : "shutdown left " + (500 - handled.get()) + " events unhandled";
+    }
+
+    static String eventsFull() throws InterruptedException {
+        EventBus bus = new EventBus(8);
+        AtomicInteger handled = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe("stuck", (e, seq, end) -> {
+            release.await();
+            handled.incrementAndGet();
+        }, EventBus.WaitStrategy.SLEEPING);
+
+        int accepted = 0, refused = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < 30; i++) {
+            if (bus.publish(EventBus.Type.SHOT_HIT, "p", null, 0, 0)) accepted++;
+            else refused++;
+        }
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+        bus.shutdown();
+
+        if (publishMillis > 1000) return "publishing to a full ring took " + publishMillis + " ms";
+        if (accepted > 8 || refused != bus.dropped.sum()) {
+            return accepted + " accepted, " + refused + " refused, " + bus.dropped.sum() + " counted as dropped";
+        }
+        return handled.get() == accepted ? null : handled.get() + " of " + accepted + " accepted events handled";
+    }
+
+    static String eventsFailures() {
+        EventBus bus = new EventBus(16);
+        bus.subscribe("broken", (e, seq, end) -> {
+            throw new IllegalStateException("broken plugin");
+        }, EventBus.WaitStrategy.SLEEPING);
+        for (int i = 0; i < 5; i++) bus.publish(EventBus.Type.SHOT_HIT, "p", null, 0, 0);
+        bus.shutdown();
+        return bus.failed.sum() == 5 ? null : bus.failed.sum() + " failures counted, expected 5";
+    }
+
+    static String eventsResults() throws IOException {
+        Path dir = Files.createTempDirectory("selfcheck");
+        try (ResultStore store = new ResultStore(dir)) {
+            EventBus bus = new EventBus(16);
+            bus.subscribe("results", EventBus.results(store), EventBus.WaitStrategy.SLEEPING);
+            if (!bus.publishResult("Alice", "Bob", 9)) return "the result was refused";
+            bus.shutdown();
+            List<ResultStore.Game> games = store.lastGames("Bob", 5);
+            return games.size() == 1 && games.get(0).winner.equals("Alice") && games.get(0).turns == 9
+                    ? null : "Bob has " + games.size() + " stored games";
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    /* ---------------- matchmaker ---------------- */
+
+    // Every other game start throws, and one throws an Error that escapes the tick;
+    // after a few more ticks every player must have been matched exactly once
+    static String matchmakerFailures() {
+        Set<String> matched = new HashSet<>();
+        AtomicInteger calls = new AtomicInteger();
+        Matchmaker mm = new Matchmaker(match -> {
+            int call = calls.incrementAndGet();
+            if (call == 3) throw new AssertionError("tick aborted");
+            if (call % 2 == 0) throw new IllegalStateException("game could not start");
+            if (!matched.add(match.first.name) || !matched.add(match.second.name)) {
+                throw new AssertionError("matched twice");
+            }
+        });
+        for (int i = 0; i < 100; i++) mm.join("Player " + i, 1500 + i);
+
+        for (int tick = 0; tick < 50 && matched.size() < 100; tick++) {
+            try {
+                mm.tick();
+            } catch (AssertionError e) {
+                if (e.getMessage().equals("matched twice")) return "a player was matched twice";
+            }
+        }
+        int waiting = 0;
+        for (Queue<Matchmaker.Ticket> band : mm.bands) waiting += band.size();
+        if (matched.size() + waiting != 100) {
+            return matched.size() + " matched and " + waiting + " waiting out of 100";
+        }
+        return matched.size() == 100 ? null : waiting + " players never matched";
+    }
+
+    static String matchmakerStop() throws InterruptedException {
+        CountDownLatch inTick = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        Matchmaker mm = new Matchmaker(match -> {
+            inTick.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.incrementAndGet();
+        });
+        mm.join("Alice", 1500);
+        mm.join("Bob", 1500);
+        mm.start(1);
+        if (!inTick.await(5, TimeUnit.SECONDS)) return "no match was formed";
+        mm.stop();
+        return finished.get() == 1 && mm.scheduler.isTerminated() ? null : "stop returned during a tick";
+    }
+
+    /* ---------------- session cache ---------------- */
+
+    // The budget is below one session, so every release writes the session out and
+    // every acquire reads it back; ids that used to share a file name are mixed in
+    static String sessionsRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("selfcheck");
+        try {
+            SessionCache cache = new SessionCache(dir, 2 * 1024);
+            String[] ids = { "a/b", "a_b", "a?b" };
+            Random rnd = new Random(1);
+            for (String id : ids) {
+                SessionCache.GameSession s = new SessionCache.GameSession(id,
+                        new Main.Player("Player 1"), new Main.Player("Player 2"), 0);
+                LayoutValidator.placeLayout(s.first, LoadGenerator.randomLayout(rnd));
+                LayoutValidator.placeLayout(s.second, LoadGenerator.randomLayout(rnd));
+                cache.put(s);
+            }
+            for (int move = 0; move < 30; move++) {
+                SessionCache.GameSession s = cache.acquire(ids[move % ids.length]);
+                // A second pinned session puts the cache over budget while the first is in use
+                SessionCache.GameSession other = cache.acquire(ids[(move + 1) % ids.length]);
+                Main.fire(s.second, Main.CELLS[move]);
+                s.turns++;
+                cache.release(other);
+                cache.release(s);
+            }
+            for (String id : ids) {
+                SessionCache.GameSession s = cache.acquire(id);
+                if (s == null) return id + " is gone";
+                int shots = 0;
+                for (char[] row : s.second.fog) for (char cell : row) if (cell != Main.FOG) shots++;
+                cache.release(s);
+                if (s.turns != 10 || shots != 10) return id + " kept " + s.turns + " turns and " + shots + " shots of 10";
+            }
+            return cache.hot.isEmpty() ? null : cache.hot.size() + " sessions left in memory over budget";
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    static void deleteTree(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path f : files) Files.deleteIfExists(f);
+        }
+        Files.deleteIfExists(dir);
+    }
+}
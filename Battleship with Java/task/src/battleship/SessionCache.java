@@ -0,0 +1,189 @@
+package battleship;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import static battleship.Main.*;
+
+/**
+ * Two-tier store of game sessions. Recently used games stay on the heap;
+ * when the memory budget is exceeded the least recently used ones are
+ * written to a compact file and dropped, and read back on their next access.
+ * A session is pinned between acquire and release and is never evicted while
+ * pinned, so moves made through it cannot be lost by a concurrent eviction.
+ */
+class SessionCache {
+
+    // Rough heap cost of one live session: two players with two char[10][10] boards and a fleet each
+    static final int SESSION_BYTES = 3 * 1024;
+
+    final Path dir;
+    final long budgetBytes;
+    final LinkedHashMap<String, GameSession> hot = new LinkedHashMap<>(16, 0.75f, true); // access order
+    long hits, loads, evictions;
+
+    SessionCache(Path dir, long budgetBytes) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.budgetBytes = budgetBytes;
+    }
+
+    /* ---------------- access ---------------- */
+
+    synchronized void put(GameSession session) throws IOException {
+        hot.put(session.id, session);
+        evictOverBudget();
+    }
+
+    // Pins and returns the session from memory or disk, or null if it is unknown.
+    // Every non-null result must be handed back to release (or remove) when the move is done
+    synchronized GameSession acquire(String id) throws IOException {
+        GameSession session = hot.get(id);
+        if (session != null) {
+            hits++;
+            session.pins++;
+            return session;
+        }
+        Path file = fileFor(id);
+        if (!Files.exists(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            session = new GameSession(id, readPlayer(in), readPlayer(in), in.readInt());
+        }
+        session.pins++; // before the budget check, so it cannot be evicted straight away
+        hot.put(id, session);
+        try {
+            evictOverBudget();
+            Files.delete(file);
+        } catch (IOException e) {
+            // The caller never gets this session: drop it and keep its file as the only copy
+            hot.remove(id);
+            throw e;
+        }
+        loads++;
+        return session;
+    }
+
+    // Unpins the session; once nobody holds it, it may be written out with its latest state
+    synchronized void release(GameSession session) throws IOException {
+        if (session.pins > 0) session.pins--;
+        evictOverBudget();
+    }
+
+    synchronized void remove(String id) throws IOException {
+        if (hot.remove(id) == null) Files.deleteIfExists(fileFor(id));
+    }
+
+    private void evictOverBudget() throws IOException {
+        Iterator<GameSession> lru = hot.values().iterator();
+        while ((long) hot.size() * SESSION_BYTES > budgetBytes && lru.hasNext()) {
+            GameSession idle = lru.next();
+            if (idle.pins > 0) continue;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(fileFor(idle.id))))) {
+                writePlayer(out, idle.first);
+                writePlayer(out, idle.second);
+                out.writeInt(idle.turns);
+            }
+            lru.remove();
+            evictions++;
+        }
+    }
+
+    // Hex of the id's UTF-8 bytes: safe on any file system and one file per distinct id
+    private Path fileFor(String id) {
+        return dir.resolve(HexFormat.of().formatHex(id.getBytes(StandardCharsets.UTF_8)) + ".game");
+    }
+
+    /* ---------------- compact encoding ---------------- */
+
+    // Boards are one byte per cell, ship cells one byte per index: about 300 bytes a player
+    static void writePlayer(DataOutputStream out, Player p) throws IOException {
+        out.writeUTF(p.name);
+        for (char[] row : p.real) for (char c : row) out.writeByte(c);
+        for (char[] row : p.fog) for (char c : row) out.writeByte(c);
+        out.writeByte(p.fleet.size());
+        for (Ship s : p.fleet) {
+            out.writeUTF(s.name);
+            out.writeByte(s.length);
+            for (Point c : s.cells) out.writeByte(c.row * SIZE + c.col);
+        }
+    }
+
+    static Player readPlayer(DataInputStream in) throws IOException {
+        Player p = new Player(in.readUTF());
+        for (char[] row : p.real) for (int c = 0; c < SIZE; c++) row[c] = (char) in.readByte();
+        for (char[] row : p.fog) for (int c = 0; c < SIZE; c++) row[c] = (char) in.readByte();
+        int ships = in.readByte();
+        for (int i = 0; i < ships; i++) {
+            Ship s = new Ship(in.readUTF(), in.readByte());
+            for (int k = 0; k < s.length; k++) s.cells.add(CELLS[in.readByte()]);
+            p.fleet.add(s);
+        }
+        return p;
+    }
+
+    /* ---------------- demo / soak run ---------------- */
+
+    // Many games, few of them active at a time: each step plays one shot in a mostly-hot game
+    static void simulate(int sessions, long budgetKb, int steps) throws IOException {
+        Path dir = Files.createTempDirectory("sessions");
+        try {
+            simulate(new SessionCache(dir, budgetKb * 1024), sessions, budgetKb, steps);
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path f : files) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void simulate(SessionCache cache, int sessions, long budgetKb, int steps) throws IOException {
+        Random rnd = new Random(7);
+        for (int i = 0; i < sessions; i++) {
+            GameSession s = new GameSession("game-" + i, new Player("Player 1"), new Player("Player 2"), 0);
+            LayoutValidator.placeLayout(s.first, LoadGenerator.randomLayout(rnd));
+            LayoutValidator.placeLayout(s.second, LoadGenerator.randomLayout(rnd));
+            cache.put(s);
+        }
+
+        long start = System.nanoTime();
+        int finished = 0;
+        for (int step = 0; step < steps; step++) {
+            // Skewed access: a small set of games gets most of the moves
+            int pick = (int) Math.min(sessions - 1, Math.abs(rnd.nextGaussian()) * sessions / 20);
+            GameSession s = cache.acquire("game-" + pick);
+            if (s == null) continue;
+            Player target = s.turns % 2 == 0 ? s.second : s.first;
+            if (fire(target, CELLS[rnd.nextInt(CELLS.length)]) != ShotResult.MISS && defeated(target)) {
+                cache.remove(s.id);
+                finished++;
+                continue;
+            }
+            s.turns++;
+            cache.release(s);
+        }
+        double ms = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%d sessions, budget %d KB (%d hot max), %d moves in %.1f ms%n",
+                sessions, budgetKb, budgetKb * 1024 / SESSION_BYTES, steps, ms);
+        System.out.printf("memory hits %d, disk loads %d, evictions %d, games finished %d%n",
+                cache.hits, cache.loads, cache.evictions, finished);
+    }
+
+    /* ---------------- data types ---------------- */
+
+    static class GameSession {
+        final String id;
+        final Player first, second;
+        int turns; // even: first player to move
+        int pins;  // callers between acquire and release; guarded by the cache
+        GameSession(String id, Player first, Player second, int turns) {
+            this.id = id;
+            this.first = first;
+            this.second = second;
+            this.turns = turns;
+        }
+    }
+}
@@ -36,3 +36,119 @@ class Multiplication extends IntBinaryOperation {
         return firstArg * secondArg;
     }
 }
+
+// Batch evaluation over operand columns: one tight loop per operation, no objects per pair
+final class IntBinaryBatch {
+
+    enum Op { ADD, MULTIPLY }
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private IntBinaryBatch() {
+    }
+
+    public static void perform(Op op, int[] first, int[] second, int[] out) {
+        perform(op, false, first, second, out);
+    }
+
+    // Same as perform, but throws ArithmeticException instead of wrapping on overflow
+    public static void performExact(Op op, int[] first, int[] second, int[] out) {
+        perform(op, true, first, second, out);
+    }
+
+    private static void perform(Op op, boolean exact, int[] first, int[] second, int[] out) {
+        if (first.length != second.length) {
+            throw new IllegalArgumentException("operand columns must have the same length, got "
+                    + first.length + " and " + second.length);
+        }
+        if (out.length < first.length) {
+            throw new IllegalArgumentException("output column is shorter than the operands, got "
+                    + out.length + " for " + first.length);
+        }
+        if (first.length < PARALLEL_THRESHOLD) {
+            range(op, exact, first, second, out, 0, first.length);
+        } else {
+            java.util.concurrent.ForkJoinPool.commonPool()
+                    .invoke(new Slice(op, exact, first, second, out, 0, first.length));
+        }
+    }
+
+    // The switch is outside the loops, so each loop is monomorphic and can be vectorized
+    private static void range(Op op, boolean exact, int[] a, int[] b, int[] out, int from, int to) {
+        if (op == Op.ADD) {
+            if (exact) {
+                for (int i = from; i < to; i++) out[i] = Math.addExact(a[i], b[i]);
+            } else {
+                for (int i = from; i < to; i++) out[i] = a[i] + b[i];
+            }
+        } else {
+            if (exact) {
+                for (int i = from; i < to; i++) out[i] = Math.multiplyExact(a[i], b[i]);
+            } else {
+                for (int i = from; i < to; i++) out[i] = a[i] * b[i];
+            }
+        }
+    }
+
+    private static final class Slice extends java.util.concurrent.RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Op op;
+        private final boolean exact;
+        private final int[] a, b, out;
+        private final int from, to;
+
+        Slice(Op op, boolean exact, int[] a, int[] b, int[] out, int from, int to) {
+            this.op = op;
+            this.exact = exact;
+            this.a = a;
+            this.b = b;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                range(op, exact, a, b, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Slice(op, exact, a, b, out, from, mid),
+                    new Slice(op, exact, a, b, out, mid, to));
+        }
+    }
+}
+
+// Rough timing of the per-object path against the batch path; JMH is not available here
+class IntBinaryBatchBenchmark {
+
+    public static void main(String[] args) {
+        int n = 1 << 22;
+        int[] a = new int[n], b = new int[n], out = new int[n];
+        java.util.Random random = new java.util.Random(1);
+        for (int i = 0; i < n; i++) {
+            a[i] = random.nextInt(1000);
+            b[i] = random.nextInt(1000);
+        }
+
+        for (int round = 0; round < 5; round++) { // the first rounds are JIT warm-up
+            long t0 = System.nanoTime();
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                IntBinaryOperation op = (i & 1) == 0 ? new Addition(a[i], b[i]) : new Multiplication(a[i], b[i]);
+                sum += op.perform();
+            }
+            long t1 = System.nanoTime();
+            IntBinaryBatch.perform(IntBinaryBatch.Op.ADD, a, b, out);
+            IntBinaryBatch.perform(IntBinaryBatch.Op.MULTIPLY, a, b, out);
+            long t2 = System.nanoTime();
+            IntBinaryBatch.performExact(IntBinaryBatch.Op.MULTIPLY, a, b, out);
+            long t3 = System.nanoTime();
+
+            System.out.printf("objects %.1f ms, batch %.1f ms (two passes), batch exact %.1f ms [%d]%n",
+                    (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6, sum & 1); // sum is printed so the object loop is not optimized away
+        }
+    }
+}
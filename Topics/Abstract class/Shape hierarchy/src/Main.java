@@ -43,11 +43,13 @@ class Rectangle extends Shape {
 
 class Triangle extends Shape {
     private double a, b, c;
+    private final double s; // semi-perimeter, cached for Heron's formula
 
     Triangle(double a, double b, double c) {
         this.a = a;
         this.b = b;
         this.c = c;
+        this.s = (a + b + c) / 2.0;
     }
 
     @Override
@@ -58,7 +60,107 @@ class Triangle extends Shape {
     @Override
     double getArea() {
         // Heron's formula
-        double s = getPerimeter() / 2.0;
         return Math.sqrt(s * (s - a) * (s - b) * (s - c));
     }
 }
+
+// Columnar store: each shape type keeps its parameters in primitive arrays
+// and is processed by its own loop, with no per-object dispatch
+class ShapeColumns {
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private double[] radius = new double[16];
+    private double[] width = new double[16], height = new double[16];
+    private double[] sideA = new double[16], sideB = new double[16], sideC = new double[16];
+    private double[] semi = new double[16]; // cached semi-perimeter per triangle
+    private int circles, rectangles, triangles;
+
+    void addCircle(double r) {
+        if (circles == radius.length) radius = java.util.Arrays.copyOf(radius, circles * 2);
+        radius[circles++] = r;
+    }
+
+    void addRectangle(double w, double h) {
+        if (rectangles == width.length) {
+            width = java.util.Arrays.copyOf(width, rectangles * 2);
+            height = java.util.Arrays.copyOf(height, rectangles * 2);
+        }
+        width[rectangles] = w;
+        height[rectangles++] = h;
+    }
+
+    void addTriangle(double a, double b, double c) {
+        if (triangles == sideA.length) {
+            int n = triangles * 2;
+            sideA = java.util.Arrays.copyOf(sideA, n);
+            sideB = java.util.Arrays.copyOf(sideB, n);
+            sideC = java.util.Arrays.copyOf(sideC, n);
+            semi = java.util.Arrays.copyOf(semi, n);
+        }
+        sideA[triangles] = a;
+        sideB[triangles] = b;
+        sideC[triangles] = c;
+        semi[triangles++] = (a + b + c) / 2.0;
+    }
+
+    int size() {
+        return circles + rectangles + triangles;
+    }
+
+    // Areas in insertion order per type: circles, then rectangles, then triangles
+    double[] areas() {
+        double[] out = new double[size()];
+        int r0 = circles, t0 = circles + rectangles;
+        forChunks(circles, (from, to) -> {
+            for (int i = from; i < to; i++) out[i] = Math.PI * radius[i] * radius[i];
+        });
+        forChunks(rectangles, (from, to) -> {
+            for (int i = from; i < to; i++) out[r0 + i] = width[i] * height[i];
+        });
+        forChunks(triangles, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                double s = semi[i];
+                out[t0 + i] = Math.sqrt(s * (s - sideA[i]) * (s - sideB[i]) * (s - sideC[i]));
+            }
+        });
+        return out;
+    }
+
+    // Perimeters in the same order as areas()
+    double[] perimeters() {
+        double[] out = new double[size()];
+        int r0 = circles, t0 = circles + rectangles;
+        forChunks(circles, (from, to) -> {
+            for (int i = from; i < to; i++) out[i] = 2 * Math.PI * radius[i];
+        });
+        forChunks(rectangles, (from, to) -> {
+            for (int i = from; i < to; i++) out[r0 + i] = 2 * (width[i] + height[i]);
+        });
+        forChunks(triangles, (from, to) -> {
+            for (int i = from; i < to; i++) out[t0 + i] = 2 * semi[i];
+        });
+        return out;
+    }
+
+    double totalArea() {
+        double sum = 0;
+        for (double area : areas()) sum += area;
+        return sum;
+    }
+
+    interface RangeBody {
+        void run(int from, int to);
+    }
+
+    // One call for small batches, parallel chunks once the split pays for itself;
+    // the per-element work stays in the caller's plain loop
+    private static void forChunks(int n, RangeBody body) {
+        if (n < PARALLEL_THRESHOLD) {
+            body.run(0, n);
+        } else {
+            int chunks = (n + PARALLEL_THRESHOLD - 1) / PARALLEL_THRESHOLD;
+            java.util.stream.IntStream.range(0, chunks).parallel()
+                    .forEach(k -> body.run(k * PARALLEL_THRESHOLD, Math.min(n, (k + 1) * PARALLEL_THRESHOLD)));
+        }
+    }
+}